@@ -0,0 +1,38 @@
+package org.daniel.orderbook.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Picks up the client id for read-your-writes routing from the {@value #CLIENT_ID_HEADER} header.
+ * <p>
+ * Requests without the header are not tracked. Keying them by peer address would put every client behind the gateway
+ * under the same key, and a single write would pin all reads to the primary.
+ */
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId == null || clientId.isBlank()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ClientContext.setClientId(clientId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientContext.clear();
+        }
+    }
+}
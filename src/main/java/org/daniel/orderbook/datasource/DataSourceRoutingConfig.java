@@ -0,0 +1,117 @@
+package org.daniel.orderbook.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the auto-configured data source with one that routes read-only transactions to the configured replicas.
+ * Liquibase keeps talking to the primary directly.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnProperty(prefix = "orderbook.datasource", name = "routing-enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private static final long MIN_HIKARI_TIMEOUT_MILLIS = 250;
+
+    /**
+     * Bound to {@code spring.datasource.hikari} like the auto-configured pool it replaces, so pool settings keep working
+     * with routing enabled.
+     */
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        var dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                                             .type(HikariDataSource.class)
+                                             .build();
+        if (StringUtils.hasText(dataSourceProperties.getName())) {
+            dataSource.setPoolName(dataSourceProperties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(DataSourceRoutingProperties properties) {
+        var replicas = properties.getReplicas()
+                                 .stream()
+                                 .map(replica -> (DataSource) replicaDataSource(replica, properties))
+                                 .collect(Collectors.toList());
+
+        return new ReplicaPool(replicas);
+    }
+
+    /**
+     * A replica that hangs instead of refusing connections would otherwise hold the health check, and the scheduler
+     * thread it shares with the other scheduled jobs, for Hikari's default connection timeout of 30 seconds.
+     */
+    private static HikariDataSource replicaDataSource(DataSourceRoutingProperties.Replica replica,
+                                                      DataSourceRoutingProperties properties) {
+        var dataSource = DataSourceBuilder.create()
+                                          .type(HikariDataSource.class)
+                                          .url(replica.getUrl())
+                                          .username(replica.getUsername())
+                                          .password(replica.getPassword())
+                                          .build();
+
+        var timeoutMillis = Math.max(MIN_HIKARI_TIMEOUT_MILLIS, properties.getHealthCheckTimeout().toMillis());
+        dataSource.setConnectionTimeout(timeoutMillis);
+        dataSource.setValidationTimeout(timeoutMillis);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(DataSourceRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                        ReplicaPool replicaPool,
+                                        ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaPool, readYourWritesTracker));
+    }
+
+    @Bean
+    public ClientContextFilter clientContextFilter() {
+        return new ClientContextFilter();
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(ReplicaPool replicaPool,
+                                                 ReadYourWritesTracker readYourWritesTracker,
+                                                 DataSourceRoutingProperties properties) {
+        return new ReplicaHealthCheck(replicaPool, readYourWritesTracker, properties);
+    }
+
+    @AllArgsConstructor
+    public static class ReplicaHealthCheck {
+
+        private final ReplicaPool replicaPool;
+        private final ReadYourWritesTracker readYourWritesTracker;
+        private final DataSourceRoutingProperties properties;
+
+        @Scheduled(fixedDelayString = "${orderbook.datasource.health-check-interval-ms:5000}")
+        public void run() {
+            replicaPool.checkHealth(properties.getHealthCheckTimeout());
+            readYourWritesTracker.evictExpired();
+        }
+    }
+}
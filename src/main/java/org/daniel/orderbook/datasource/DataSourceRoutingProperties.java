@@ -0,0 +1,41 @@
+package org.daniel.orderbook.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for splitting traffic between the primary ({@code spring.datasource}) and its read-only replicas.
+ */
+@Data
+@ConfigurationProperties(prefix = "orderbook.datasource")
+public class DataSourceRoutingProperties {
+
+    boolean routingEnabled = false;
+
+    List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * How long a client's reads stay on the primary after it committed a write, should cover the replication lag.
+     */
+    Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Bounds the health check, and is also the connection timeout of the replica pools, so reads fail fast on a
+     * replica that has stopped responding.
+     */
+    Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    @Data
+    public static class Replica {
+
+        String url;
+
+        String username;
+
+        String password;
+    }
+}
@@ -0,0 +1,40 @@
+package org.daniel.orderbook.datasource;
+
+import lombok.AllArgsConstructor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each client last committed a write, so its reads can be pinned to the primary until replicas catch up.
+ * <p>
+ * Kept in memory, so it only knows about writes served by this instance.
+ */
+@AllArgsConstructor
+public class ReadYourWritesTracker {
+
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    public void recordWrite(String clientId) {
+        lastWrites.put(clientId, clock.instant());
+    }
+
+    public boolean mustReadFromPrimary(String clientId) {
+        var lastWrite = lastWrites.get(clientId);
+        return lastWrite != null && lastWrite.plus(window).isAfter(clock.instant());
+    }
+
+    public void evictExpired() {
+        var cutoff = clock.instant().minus(window);
+        lastWrites.values().removeIf(lastWrite -> !lastWrite.isAfter(cutoff));
+    }
+}
@@ -0,0 +1,92 @@
+package org.daniel.orderbook.datasource;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+/**
+ * Round-robins reads across the replicas that passed their last health check.
+ */
+@Slf4j
+public class ReplicaPool implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(List<DataSource> dataSources) {
+        var keyIndex = new AtomicInteger();
+        this.replicas = dataSources.stream()
+                                   .map(dataSource -> new Replica("replica-" + keyIndex.getAndIncrement(), dataSource))
+                                   .collect(Collectors.toList());
+    }
+
+    public Map<Object, Object> targetDataSources() {
+        var targets = new LinkedHashMap<Object, Object>();
+        replicas.forEach(replica -> targets.put(replica.getKey(), replica.getDataSource()));
+        return targets;
+    }
+
+    public Optional<String> nextHealthyKey() {
+        var size = replicas.size();
+        var start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+
+        for (int i = 0; i < size; i++) {
+            var replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return Optional.of(replica.getKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void checkHealth(Duration timeout) {
+        var timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+
+        for (var replica : replicas) {
+            boolean healthy;
+            try (var connection = replica.getDataSource().getConnection()) {
+                healthy = connection.isValid(timeoutSeconds);
+            } catch (Exception e) {
+                healthy = false;
+            }
+
+            if (healthy != replica.isHealthy()) {
+                log.warn("Replica health changed", v("replica", replica.getKey()), v("healthy", healthy));
+            }
+            replica.setHealthy(healthy);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (var replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable) {
+                ((AutoCloseable) replica.getDataSource()).close();
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        void setHealthy(boolean healthy) {
+            this.healthy = healthy;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.daniel.orderbook.idempotency;
+
+/**
+ * Minimal Bloom filter over strings, not thread safe.
+ */
+class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final long[] bits;
+    private final int numBits;
+    private final int numHashes;
+
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        var optimalBits = Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.numBits = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * LN2));
+        this.bits = new long[(numBits + 63) / 64];
+    }
+
+    void put(String key) {
+        var hash = hash(key);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= numHashes; i++) {
+            var bit = bitIndex(h1 + i * h2);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String key) {
+        var hash = hash(key);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= numHashes; i++) {
+            var bit = bitIndex(h1 + i * h2);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bitIndex(int combinedHash) {
+        return (combinedHash < 0 ? ~combinedHash : combinedHash) % numBits;
+    }
+
+    // FNV-1a followed by the murmur3 finalizer, so both 32 bit halves are usable for double hashing
+    private static long hash(String key) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
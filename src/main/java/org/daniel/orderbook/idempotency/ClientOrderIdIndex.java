@@ -0,0 +1,94 @@
+package org.daniel.orderbook.idempotency;
+
+import lombok.Value;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+/**
+ * Answers "has this client order id been submitted before?" without going to the database in the common case.
+ * <p>
+ * Ids submitted within the window are kept together with their order id, so a retry is answered straight away.
+ * Every id also goes into a Bloom filter, which tells a brand new id apart from an older one that needs a database
+ * lookup. Two filters are rotated once the current one is full, so ids from two generations back are forgotten and
+ * left to the unique constraint on {@code orders.client_order_id}.
+ */
+public class ClientOrderIdIndex {
+
+    private final Duration window;
+    private final int maxRecent;
+    private final int bloomExpectedInsertions;
+    private final double bloomFalsePositiveRate;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, RecentOrder> recent = new LinkedHashMap<>();
+    private BloomFilter currentFilter;
+    private BloomFilter previousFilter;
+    private int currentFilterInsertions;
+
+    public ClientOrderIdIndex(Duration window,
+                              int maxRecent,
+                              int bloomExpectedInsertions,
+                              double bloomFalsePositiveRate,
+                              Clock clock) {
+        this.window = window;
+        this.maxRecent = maxRecent;
+        this.bloomExpectedInsertions = bloomExpectedInsertions;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.clock = clock;
+        this.currentFilter = new BloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate);
+        this.previousFilter = new BloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate);
+    }
+
+    public synchronized Optional<Long> findRecent(String clientOrderId) {
+        evictExpired();
+
+        return Optional.ofNullable(recent.get(clientOrderId))
+                       .map(RecentOrder::getOrderId);
+    }
+
+    /**
+     * False means the id has definitely not been seen since the filters were last rotated out, true means it might have.
+     */
+    public synchronized boolean mightHaveSeen(String clientOrderId) {
+        return currentFilter.mightContain(clientOrderId) || previousFilter.mightContain(clientOrderId);
+    }
+
+    public synchronized void put(String clientOrderId, Long orderId) {
+        evictExpired();
+
+        recent.put(clientOrderId, new RecentOrder(orderId, clock.instant()));
+        if (recent.size() > maxRecent) {
+            var eldest = recent.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+
+        if (currentFilterInsertions >= bloomExpectedInsertions) {
+            previousFilter = currentFilter;
+            currentFilter = new BloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate);
+            currentFilterInsertions = 0;
+        }
+        currentFilter.put(clientOrderId);
+        currentFilterInsertions++;
+    }
+
+    private void evictExpired() {
+        var cutoff = clock.instant().minus(window);
+        var entries = recent.values().iterator();
+
+        while (entries.hasNext() && !entries.next().getReceivedAt().isAfter(cutoff)) {
+            entries.remove();
+        }
+    }
+
+    @Value
+    private static class RecentOrder {
+
+        Long orderId;
+        Instant receivedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package org.daniel.orderbook.idempotency;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public ClientOrderIdIndex clientOrderIdIndex(IdempotencyProperties properties) {
+        return new ClientOrderIdIndex(properties.getWindow(),
+                                      properties.getMaxRecent(),
+                                      properties.getBloomExpectedInsertions(),
+                                      properties.getBloomFalsePositiveRate(),
+                                      Clock.systemUTC());
+    }
+}
@@ -0,0 +1,22 @@
+package org.daniel.orderbook.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orderbook.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a client order id is remembered together with its order id.
+     */
+    Duration window = Duration.ofMinutes(10);
+
+    int maxRecent = 100_000;
+
+    int bloomExpectedInsertions = 1_000_000;
+
+    double bloomFalsePositiveRate = 0.01;
+}
@@ -0,0 +1,51 @@
+package org.daniel.orderbook.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+/**
+ * Periodically reports how many events the {@link LossyAsyncAppender}s had to drop.
+ */
+@Slf4j
+@Component
+public class DroppedLogEventsReporter {
+
+    private final Map<String, Long> reportedCounts = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${orderbook.logging.dropped-report-interval-ms:60000}")
+    public void report() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+            return;
+        }
+
+        var rootLogger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.iteratorForAppenders().forEachRemaining(appender -> {
+            if (appender instanceof LossyAsyncAppender) {
+                report(appender.getName(), ((LossyAsyncAppender) appender).getDroppedCount());
+            }
+        });
+    }
+
+    private void report(String appenderName, long droppedTotal) {
+        var previous = reportedCounts.getOrDefault(appenderName, 0L);
+        if (droppedTotal <= previous) {
+            return;
+        }
+
+        // Drops happen when the queue is full, which is exactly when a WARN would be dropped too. ERROR never is.
+        reportedCounts.put(appenderName, droppedTotal);
+        log.error("Dropped log events since last report",
+                  v("appender", appenderName),
+                  v("dropped", droppedTotal - previous),
+                  v("droppedTotal", droppedTotal));
+    }
+}
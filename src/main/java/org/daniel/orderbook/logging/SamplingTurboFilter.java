@@ -0,0 +1,62 @@
+package org.daniel.orderbook.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through only a fraction of the events carrying a configured marker, e.g. {@code order.fetch=0.1}.
+ * <p>
+ * Runs before logback creates the event, so a sampled out call costs a map lookup and nothing gets encoded.
+ * Errors and anything with a throwable are always let through.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, Double> sampleRates = new HashMap<>();
+
+    /**
+     * Called by logback for every {@code <sampleRate>marker=rate</sampleRate>} element.
+     */
+    public void addSampleRate(String sampleRate) {
+        var separator = sampleRate.lastIndexOf('=');
+        if (separator < 1) {
+            addError("Invalid sample rate, expected marker=rate but got: " + sampleRate);
+            return;
+        }
+
+        double rate;
+        try {
+            rate = Double.parseDouble(sampleRate.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            addError("Invalid sample rate, expected marker=rate but got: " + sampleRate);
+            return;
+        }
+
+        if (rate < 0.0 || rate > 1.0) {
+            addError("Sample rate must be between 0.0 and 1.0 but got: " + sampleRate);
+            return;
+        }
+
+        sampleRates.put(sampleRate.substring(0, separator).trim(), rate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || marker == null || t != null || level.isGreaterOrEqual(Level.ERROR)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        var rate = sampleRates.get(marker.getName());
+        if (rate == null || ThreadLocalRandom.current().nextDouble() < rate) {
+            return FilterReply.NEUTRAL;
+        }
+
+        return FilterReply.DENY;
+    }
+}
@@ -2,11 +2,50 @@ package org.daniel.orderbook.repositories;
 
 import org.daniel.orderbook.repositories.model.OrderEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
 
+    Optional<OrderEntity> findByClientOrderId(String clientOrderId);
+
+    /**
+     * Inserts the order unless its client order id is taken, returns the id of the inserted order or empty if the id was
+     * taken.
+     * <p>
+     * Saving through JPA would hit the unique constraint instead, which Hibernate logs as an error on every retry. Only
+     * a conflict on the client order id is ignored, any other constraint violation still fails the insert.
+     */
+    default Optional<Long> insertIfAbsent(OrderEntity order) {
+        return insertIfAbsent(order.getOrderTicker(),
+                              order.getOrderSide(),
+                              order.getVolume(),
+                              order.getPrice(),
+                              order.getCurrency(),
+                              order.getCreatedAt(),
+                              order.getClientOrderId());
+    }
+
+    // Plain parameters rather than SpEL on the entity, which builds an evaluation context per parameter on every call
+    @Transactional
+    @Query(value = "INSERT INTO orders (order_ticker, order_side, volume, price, currency, created_at, client_order_id) "
+                   + "VALUES (:orderTicker, :orderSide, :volume, :price, :currency, :createdAt, :clientOrderId) "
+                   + "ON CONFLICT (client_order_id) DO NOTHING "
+                   + "RETURNING id",
+           nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("orderTicker") String orderTicker,
+                                  @Param("orderSide") String orderSide,
+                                  @Param("volume") Long volume,
+                                  @Param("price") BigDecimal price,
+                                  @Param("currency") String currency,
+                                  @Param("createdAt") Instant createdAt,
+                                  @Param("clientOrderId") String clientOrderId);
+
     List<OrderEntity> findByOrderTickerAndOrderSideAndCreatedAtGreaterThanEqualAndCreatedAtLessThanEqual(String orderTicker, String orderSide, Instant from, Instant to);
 }
@@ -44,4 +44,6 @@ public class OrderEntity {
 
     @NotNull
     Instant createdAt;
+
+    String clientOrderId;
 }
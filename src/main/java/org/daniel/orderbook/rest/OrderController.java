@@ -8,6 +8,8 @@ import org.daniel.orderbook.rest.model.OrderSide;
 import org.daniel.orderbook.rest.model.OrderSummaryResponse;
 import org.daniel.orderbook.rest.model.OrderTicker;
 import org.daniel.orderbook.service.OrderService;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -33,11 +35,16 @@ import static net.logstash.logback.argument.StructuredArguments.v;
 @RequestMapping("/v1/order")
 public class OrderController {
 
+    // Sample rates per marker are configured under orderbook.logging.sample-rate, see logback-spring.xml
+    private static final Marker CREATE = MarkerFactory.getMarker("order.create");
+    private static final Marker FETCH = MarkerFactory.getMarker("order.fetch");
+    private static final Marker SUMMARY = MarkerFactory.getMarker("order.summary");
+
     private final OrderService orderService;
 
     @PostMapping(path = "create")
     public ResponseEntity<Long> createOrder(@RequestBody @Validated OrderRequest request) {
-        log.info("Received request to create order", v("request", request));
+        log.info(CREATE, "Received request to create order", v("request", request));
 
         Long orderId = orderService.createOrder(request);
 
@@ -46,7 +53,7 @@ public class OrderController {
 
     @GetMapping(path = "{orderId}")
     public ResponseEntity<OrderResponse> fetchOrder(@PathVariable("orderId") Long orderId) {
-        log.info("Received request to fetch order", v("orderId", orderId));
+        log.info(FETCH, "Received request to fetch order", v("orderId", orderId));
 
         return orderService.getOrder(orderId)
                             .map(ResponseEntity::ok)
@@ -57,7 +64,7 @@ public class OrderController {
     public ResponseEntity<List<OrderSummaryResponse>> fetchSummary(@RequestParam OrderTicker orderTicker,
                                                                    @RequestParam OrderSide orderSide,
                                                                    @RequestParam String date) {
-        log.info("Received request to fetch purchase summary",
+        log.info(SUMMARY, "Received request to fetch purchase summary",
                  v("orderTicker", orderTicker),
                  v("orderSide", orderSide),
                  v("date", date));
@@ -6,6 +6,7 @@ import lombok.Value;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 @Value
 @Builder
@@ -24,4 +25,10 @@ public class OrderRequest {
     @Valid
     @NotNull
     Price price;
+
+    /**
+     * Optional id chosen by the client, retries carrying the same id return the original order instead of creating a new one.
+     */
+    @Size(min = 1, max = 64)
+    String clientOrderId;
 }
@@ -16,6 +16,7 @@ public class OrderResponse {
     Long volume;
     BigDecimal price;
     String currency;
+    String clientOrderId;
 
     public static OrderResponse from(OrderEntity entity) {
         return OrderResponse.builder()
@@ -25,6 +26,7 @@ public class OrderResponse {
                             .volume(entity.getVolume())
                             .price(entity.getPrice())
                             .currency(entity.getCurrency())
+                            .clientOrderId(entity.getClientOrderId())
                             .build();
     }
 }
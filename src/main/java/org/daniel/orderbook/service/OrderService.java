@@ -2,6 +2,7 @@ package org.daniel.orderbook.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.daniel.orderbook.idempotency.ClientOrderIdIndex;
 import org.daniel.orderbook.repositories.OrderRepository;
 import org.daniel.orderbook.repositories.model.OrderEntity;
 import org.daniel.orderbook.rest.model.OrderRequest;
@@ -12,6 +13,9 @@ import org.daniel.orderbook.rest.model.OrderTicker;
 import org.daniel.orderbook.rest.model.Price;
 import org.javamoney.moneta.Money;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.money.UnknownCurrencyException;
 import java.time.Instant;
@@ -22,24 +26,63 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static net.logstash.logback.argument.StructuredArguments.v;
+
 @Slf4j
 @Service
 @AllArgsConstructor
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final ClientOrderIdIndex clientOrderIdIndex;
 
+    @Transactional
     public Long createOrder(OrderRequest request) {
-        return orderRepository.save(convertToEntity(request))
-                              .getId();
+        var clientOrderId = request.getClientOrderId();
+        if (clientOrderId == null) {
+            return orderRepository.save(convertToEntity(request))
+                                  .getId();
+        }
+
+        var recentOrderId = clientOrderIdIndex.findRecent(clientOrderId);
+        if (recentOrderId.isPresent()) {
+            log.info("Received duplicate order", v("clientOrderId", clientOrderId), v("orderId", recentOrderId.get()));
+            return recentOrderId.get();
+        }
+
+        if (clientOrderIdIndex.mightHaveSeen(clientOrderId)) {
+            var existingOrderId = orderRepository.findByClientOrderId(clientOrderId).map(OrderEntity::getId);
+            if (existingOrderId.isPresent()) {
+                log.info("Received duplicate order", v("clientOrderId", clientOrderId), v("orderId", existingOrderId.get()));
+                rememberAfterCommit(clientOrderId, existingOrderId.get());
+                return existingOrderId.get();
+            }
+        }
+
+        var insertedOrderId = orderRepository.insertIfAbsent(convertToEntity(request));
+        if (insertedOrderId.isPresent()) {
+            rememberAfterCommit(clientOrderId, insertedOrderId.get());
+            return insertedOrderId.get();
+        }
+
+        // Lost the race to a concurrent retry, or the id is older than what the index remembers
+        var existingOrderId = orderRepository.findByClientOrderId(clientOrderId)
+                                             .map(OrderEntity::getId)
+                                             .orElseThrow(() -> new IllegalStateException("No order found for client order id " + clientOrderId));
+
+        log.info("Received duplicate order", v("clientOrderId", clientOrderId), v("orderId", existingOrderId));
+        rememberAfterCommit(clientOrderId, existingOrderId);
+        return existingOrderId;
     }
 
+    @Transactional(readOnly = true)
     public Optional<OrderResponse> getOrder(Long orderId) {
         return orderRepository.findById(orderId)
                               .map(OrderResponse::from);
     }
 
     // TODO: Implement currency conversion and return unified summary in a single currency
+    @Transactional(readOnly = true)
     public List<OrderSummaryResponse> getSummaries(OrderTicker orderTicker,
                                                    OrderSide orderSide,
                                                    LocalDate date) {
@@ -91,6 +134,20 @@ public class OrderService {
                                    .build();
     }
 
+    private void rememberAfterCommit(String clientOrderId, Long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clientOrderIdIndex.put(clientOrderId, orderId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clientOrderIdIndex.put(clientOrderId, orderId);
+            }
+        });
+    }
+
     private static Money convertToMonetaryAmount(Price price) {
         try {
             return Money.of(price.getAmount(), price.getCurrency());
@@ -110,6 +167,7 @@ public class OrderService {
                           .price(monetaryAmount.getNumberStripped())
                           .currency(monetaryAmount.getCurrency().getCurrencyCode())
                           .createdAt(Instant.now())
+                          .clientOrderId(request.getClientOrderId())
                           .build();
     }
 }
@@ -0,0 +1,37 @@
+package org.daniel.orderbook.startup;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.daniel.orderbook.datasource.DataSourceRoutingConfig;
+import org.daniel.orderbook.idempotency.ClientOrderIdIndex;
+import org.daniel.orderbook.logging.DroppedLogEventsReporter;
+import org.daniel.orderbook.rest.OrderController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Shortens the time until the first order is accepted, enabled with the {@code fast-start} profile.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    /**
+     * Everything on the order path is created up front so the first request doesn't pay for it, the same goes for
+     * beans that only do work through {@code @Scheduled} methods, which would otherwise never be created.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(OrderController.class,
+                                                            ClientOrderIdIndex.class,
+                                                            SpringLiquibase.class,
+                                                            DroppedLogEventsReporter.class,
+                                                            DataSourceRoutingConfig.ReplicaHealthCheck.class);
+    }
+
+    @Bean
+    public static LiquibaseChecksumGuard liquibaseChecksumGuard() {
+        return new LiquibaseChecksumGuard();
+    }
+}
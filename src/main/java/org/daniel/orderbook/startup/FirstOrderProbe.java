@@ -0,0 +1,109 @@
+package org.daniel.orderbook.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+/**
+ * Submits an order to this instance as soon as it is up and reports how long after JVM start it was accepted.
+ * <p>
+ * Used by the {@code fast-start} build profile to measure startup and to train the class data sharing archive. Every
+ * run submits a new client order id, so each one takes the same insert path. The {@code startup-probe} profile points
+ * the datasource at a throwaway schema, which the last run drops before exiting.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "orderbook.startup-probe", name = "enabled", havingValue = "true")
+public class FirstOrderProbe {
+
+    private static final String PROBE_ORDER = "{\"orderTicker\":\"SAVE\","
+                                              + "\"orderSide\":\"PURCHASE\","
+                                              + "\"volume\":1,"
+                                              + "\"price\":{\"amount\":1,\"currency\":\"SEK\"},"
+                                              + "\"clientOrderId\":\"%s\"}";
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final boolean exitWhenDone;
+    private final String schema;
+    private final boolean dropSchema;
+
+    public FirstOrderProbe(DataSource dataSource,
+                           @Value("${orderbook.startup-probe.exit:false}") boolean exitWhenDone,
+                           @Value("${orderbook.startup-probe.schema:}") String schema,
+                           @Value("${orderbook.startup-probe.drop-schema:false}") boolean dropSchema) {
+        if (dropSchema && !SCHEMA_NAME.matcher(schema).matches()) {
+            throw new IllegalArgumentException("Invalid startup probe schema [" + schema + "]");
+        }
+
+        this.dataSource = dataSource;
+        this.exitWhenDone = exitWhenDone;
+        this.schema = schema;
+        this.dropSchema = dropSchema;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        var context = event.getApplicationContext();
+        var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/order/create"))
+                                 .header("Content-Type", "application/json")
+                                 .POST(HttpRequest.BodyPublishers.ofString(String.format(PROBE_ORDER, "startup-probe-" + UUID.randomUUID())))
+                                 .build();
+
+        var succeeded = false;
+        try {
+            var response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            var uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+
+            succeeded = response.statusCode() == 200;
+            if (succeeded) {
+                log.info("Time to first successful createOrder", v("millis", uptime), v("orderId", response.body()));
+            } else {
+                log.error("Startup probe order was rejected", v("status", response.statusCode()), v("body", response.body()));
+            }
+        } catch (IOException e) {
+            log.error("Failed to submit startup probe order", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (dropSchema) {
+            dropProbeSchema();
+        }
+
+        if (exitWhenDone) {
+            var exitCode = succeeded ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+
+    private void dropProbeSchema() {
+        try {
+            new JdbcTemplate(dataSource).execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            log.info("Dropped startup probe schema", v("schema", schema));
+        } catch (DataAccessException e) {
+            log.error("Failed to drop startup probe schema", v("schema", schema), e);
+        }
+    }
+}
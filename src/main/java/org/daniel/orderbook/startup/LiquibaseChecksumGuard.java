@@ -0,0 +1,147 @@
+package org.daniel.orderbook.startup;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+/**
+ * Skips Liquibase when the changelog files are byte for byte the same as the last time they were applied.
+ * <p>
+ * Liquibase otherwise takes its lock and validates every change set against the database on each start. The checksum
+ * covers every file in the changelog's directory and the settings that decide which change sets apply, like contexts,
+ * labels and parameters. It is only stored after a successful update, so any change to the changelog or those
+ * settings, or a failed migration, makes the next start run Liquibase as usual. Liquibase always runs with drop first.
+ */
+@Slf4j
+public class LiquibaseChecksumGuard implements BeanPostProcessor {
+
+    private final Map<String, String> pendingChecksums = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (!(bean instanceof SpringLiquibase)) {
+            return bean;
+        }
+
+        var liquibase = (SpringLiquibase) bean;
+        var checksum = changelogChecksum(liquibase);
+        if (checksum.isEmpty() || liquibase.isDropFirst()) {
+            return bean;
+        }
+
+        if (checksum.equals(storedChecksum(liquibase))) {
+            log.info("Changelog unchanged since last migration, skipping Liquibase", v("checksum", checksum.get()));
+            liquibase.setShouldRun(false);
+        } else {
+            pendingChecksums.put(beanName, checksum.get());
+        }
+
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        var checksum = pendingChecksums.remove(beanName);
+        if (checksum != null) {
+            storeChecksum((SpringLiquibase) bean, checksum);
+        }
+
+        return bean;
+    }
+
+    private static Optional<String> changelogChecksum(SpringLiquibase liquibase) {
+        var changeLog = liquibase.getChangeLog();
+        var directory = changeLog.substring(0, changeLog.lastIndexOf('/') + 1);
+
+        try {
+            var resolver = new PathMatchingResourcePatternResolver(liquibase.getResourceLoader());
+            var root = resolver.getResource(directory).getURL().toString();
+
+            // Keyed by path relative to the changelog directory, so files with the same name in different
+            // subdirectories are told apart and the checksum doesn't depend on where the application is installed
+            var files = new TreeMap<String, Resource>();
+            for (var resource : resolver.getResources(directory + "**/*.*")) {
+                var url = resource.getURL().toString();
+                files.put(url.startsWith(root) ? url.substring(root.length()) : url, resource);
+            }
+
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var file : files.entrySet()) {
+                digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+                try (var content = file.getValue().getInputStream()) {
+                    digest.update(content.readAllBytes());
+                }
+            }
+            digest.update(runSettings(liquibase).getBytes(StandardCharsets.UTF_8));
+            return Optional.of(String.format("%064x", new BigInteger(1, digest.digest())));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("Failed to calculate changelog checksum, running Liquibase", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Settings that change which change sets apply, or where, while the files stay the same.
+     */
+    @SuppressWarnings("unchecked")
+    private static String runSettings(SpringLiquibase liquibase) {
+        // SpringLiquibase has no getter for the parameters
+        var parameters = (Map<String, String>) new DirectFieldAccessor(liquibase).getPropertyValue("parameters");
+
+        return String.join("\n",
+                           "contexts=" + liquibase.getContexts(),
+                           "labels=" + liquibase.getLabels(),
+                           "tag=" + liquibase.getTag(),
+                           "defaultSchema=" + liquibase.getDefaultSchema(),
+                           "liquibaseSchema=" + liquibase.getLiquibaseSchema(),
+                           "databaseChangeLogTable=" + liquibase.getDatabaseChangeLogTable(),
+                           "parameters=" + (parameters == null ? null : new TreeMap<>(parameters)));
+    }
+
+    private static Optional<String> storedChecksum(SpringLiquibase liquibase) {
+        try {
+            return new JdbcTemplate(liquibase.getDataSource())
+                    .queryForList("SELECT checksum FROM schema_checksum WHERE changelog = ?", String.class, liquibase.getChangeLog())
+                    .stream()
+                    .findFirst();
+        } catch (DataAccessException e) {
+            // The table is created by the changelog itself, so it is missing on a fresh database
+            return Optional.empty();
+        }
+    }
+
+    private static void storeChecksum(SpringLiquibase liquibase, String checksum) {
+        var jdbcTemplate = new JdbcTemplate(liquibase.getDataSource());
+        var now = Timestamp.from(Instant.now());
+
+        try {
+            var updated = jdbcTemplate.update("UPDATE schema_checksum SET checksum = ?, updated_at = ? WHERE changelog = ?",
+                                              checksum, now, liquibase.getChangeLog());
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO schema_checksum (changelog, checksum, updated_at) VALUES (?, ?, ?)",
+                                    liquibase.getChangeLog(), checksum, now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to store changelog checksum, Liquibase will run again on next start", e);
+        }
+    }
+}
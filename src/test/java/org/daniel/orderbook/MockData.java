@@ -17,6 +17,10 @@ public class MockData {
     }
 
     public static OrderRequest defaultOrderRequest(String currency) {
+        return defaultOrderRequest(currency, null);
+    }
+
+    public static OrderRequest defaultOrderRequest(String currency, String clientOrderId) {
         return OrderRequest.builder()
                            .orderTicker(OrderTicker.TSLA)
                            .orderSide(OrderSide.SALE)
@@ -25,6 +29,7 @@ public class MockData {
                                        .amount(BigDecimal.TEN)
                                        .currency(currency)
                                        .build())
+                           .clientOrderId(clientOrderId)
                            .build();
     }
 
@@ -0,0 +1,167 @@
+package org.daniel.orderbook.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    public void setUp() {
+        primary = embeddedDatabase("primary");
+        replica = embeddedDatabase("replica");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ClientContext.clear();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    public void shouldRouteReadOnlyTransactionToReplica() {
+        // Given
+        var jdbc = new RoutedJdbc(new ReplicaPool(List.of(replica)), Duration.ofSeconds(5));
+
+        // When
+        var served = jdbc.read();
+
+        // Then
+        assert served.equals("replica");
+    }
+
+    @Test
+    public void shouldRouteWriteTransactionToPrimary() {
+        // Given
+        var jdbc = new RoutedJdbc(new ReplicaPool(List.of(replica)), Duration.ofSeconds(5));
+
+        // When
+        var served = jdbc.write();
+
+        // Then
+        assert served.equals("primary");
+    }
+
+    @Test
+    public void shouldReadFromPrimaryRightAfterClientWrote() {
+        // Given
+        var jdbc = new RoutedJdbc(new ReplicaPool(List.of(replica)), Duration.ofSeconds(5));
+        ClientContext.setClientId("writer");
+        jdbc.write();
+
+        // When
+        var servedForWriter = jdbc.read();
+        ClientContext.setClientId("someone-else");
+        var servedForOthers = jdbc.read();
+
+        // Then
+        assert servedForWriter.equals("primary");
+        assert servedForOthers.equals("replica");
+    }
+
+    @Test
+    public void shouldReadFromReplicaOnceWindowHasPassed() {
+        // Given
+        var jdbc = new RoutedJdbc(new ReplicaPool(List.of(replica)), Duration.ZERO);
+        ClientContext.setClientId("writer");
+        jdbc.write();
+
+        // When
+        var served = jdbc.read();
+
+        // Then
+        assert served.equals("replica");
+    }
+
+    @Test
+    public void shouldSkipUnhealthyReplicas() throws SQLException {
+        // Given
+        var broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        var replicaPool = new ReplicaPool(List.of(broken, replica));
+        var jdbc = new RoutedJdbc(replicaPool, Duration.ofSeconds(5));
+
+        // When
+        replicaPool.checkHealth(Duration.ofSeconds(1));
+
+        // Then
+        assert jdbc.read().equals("replica");
+        assert jdbc.read().equals("replica");
+    }
+
+    @Test
+    public void shouldFallBackToPrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        // Given
+        var broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        var replicaPool = new ReplicaPool(List.of(broken));
+        var jdbc = new RoutedJdbc(replicaPool, Duration.ofSeconds(5));
+
+        // When
+        replicaPool.checkHealth(Duration.ofSeconds(1));
+
+        // Then
+        assert jdbc.read().equals("primary");
+    }
+
+    private static EmbeddedDatabase embeddedDatabase(String name) {
+        var database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+                                                    .setName(name)
+                                                    .build();
+        var jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+
+        return database;
+    }
+
+    private class RoutedJdbc {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        RoutedJdbc(ReplicaPool replicaPool, Duration readYourWritesWindow) {
+            var routing = new ReadWriteRoutingDataSource(primary, replicaPool, new ReadYourWritesTracker(readYourWritesWindow));
+            var dataSource = new LazyConnectionDataSourceProxy(routing);
+            var transactionManager = new DataSourceTransactionManager(dataSource);
+
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        String write() {
+            return readWrite.execute(status -> {
+                jdbcTemplate.update("UPDATE node SET name = name");
+                return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.daniel.orderbook.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.daniel.orderbook.MockData;
+import org.daniel.orderbook.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Routes through the real service, repository and JPA transaction manager, with two embedded databases standing in
+ * for the primary and the replica.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+                properties = {
+                        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=3",
+                        "orderbook.datasource.routing-enabled=true",
+                        "orderbook.datasource.replicas[0].url=" + ReadWriteRoutingJpaTest.REPLICA_URL,
+                        "orderbook.datasource.replicas[0].username=sa",
+                        "orderbook.datasource.replicas[0].password="
+                })
+class ReadWriteRoutingJpaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_ONLY_ORDER_ID = 1000L;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    HikariDataSource primaryDataSource;
+
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    public void setUp() {
+        // Liquibase only migrates the primary, a real replica would get the schema through replication
+        replica.execute("CREATE TABLE IF NOT EXISTS orders (id BIGINT AUTO_INCREMENT PRIMARY KEY, order_ticker VARCHAR(50), "
+                        + "order_side VARCHAR(50), volume BIGINT, price NUMERIC, currency VARCHAR(10), created_at TIMESTAMP, "
+                        + "client_order_id VARCHAR(64))");
+        replica.update("MERGE INTO orders (id, order_ticker, order_side, volume, price, currency, created_at) "
+                       + "KEY (id) VALUES (?, 'TSLA', 'SALE', 500, 10, 'SEK', CURRENT_TIMESTAMP)", REPLICA_ONLY_ORDER_ID);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ClientContext.clear();
+    }
+
+    @Test
+    public void shouldApplyHikariSettingsToPrimaryPool() {
+        // Then
+        assert primaryDataSource.getMaximumPoolSize() == 3;
+    }
+
+    @Test
+    public void shouldReadFromReplica() {
+        // When
+        var order = orderService.getOrder(REPLICA_ONLY_ORDER_ID);
+
+        // Then
+        assert order.isPresent();
+        assert new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM orders WHERE id = ?",
+                                                                  Long.class, REPLICA_ONLY_ORDER_ID) == 0;
+    }
+
+    @Test
+    public void shouldWriteToPrimaryAndReadOwnWritesFromPrimary() {
+        // Given
+        ClientContext.setClientId("writer");
+
+        // When
+        var orderId = orderService.createOrder(MockData.defaultOrderRequest());
+        var ownRead = orderService.getOrder(orderId);
+        ClientContext.setClientId("someone-else");
+        var otherRead = orderService.getOrder(orderId);
+
+        // Then
+        assert ownRead.isPresent();
+        assert otherRead.isEmpty();
+    }
+}
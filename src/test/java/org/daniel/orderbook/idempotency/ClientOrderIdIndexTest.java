@@ -0,0 +1,129 @@
+package org.daniel.orderbook.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.IntStream;
+
+class ClientOrderIdIndexTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    public void shouldReturnOrderIdOfRecentSubmission() {
+        // Given
+        var index = index(100, 1_000);
+        index.put("client-1", 1L);
+
+        // When
+        var orderId = index.findRecent("client-1");
+
+        // Then
+        assert orderId.isPresent();
+        assert orderId.get() == 1L;
+        assert index.mightHaveSeen("client-1");
+    }
+
+    @Test
+    public void shouldNotHaveSeenNewId() {
+        // Given
+        var index = index(100, 1_000);
+        index.put("client-1", 1L);
+
+        // Then
+        assert index.findRecent("client-2").isEmpty();
+        assert !index.mightHaveSeen("client-2");
+    }
+
+    @Test
+    public void shouldFallBackToBloomFilterOnceWindowHasPassed() {
+        // Given
+        var index = index(100, 1_000);
+        index.put("client-1", 1L);
+
+        // When
+        clock.advance(Duration.ofMinutes(11));
+
+        // Then
+        assert index.findRecent("client-1").isEmpty();
+        assert index.mightHaveSeen("client-1");
+    }
+
+    @Test
+    public void shouldEvictEldestWhenFull() {
+        // Given
+        var index = index(2, 1_000);
+
+        // When
+        index.put("client-1", 1L);
+        index.put("client-2", 2L);
+        index.put("client-3", 3L);
+
+        // Then
+        assert index.findRecent("client-1").isEmpty();
+        assert index.findRecent("client-2").isPresent();
+        assert index.findRecent("client-3").isPresent();
+        assert index.mightHaveSeen("client-1");
+    }
+
+    @Test
+    public void shouldForgetIdsAfterTwoFilterRotations() {
+        // Given
+        var index = index(1, 10);
+        index.put("client-old", 1L);
+
+        // When
+        IntStream.range(0, 20).forEach(i -> index.put("client-" + i, (long) i));
+
+        // Then
+        assert !index.mightHaveSeen("client-old");
+        assert index.mightHaveSeen("client-19");
+    }
+
+    @Test
+    public void shouldKeepFalsePositiveRateNearConfiguredRate() {
+        // Given
+        var index = index(1, 10_000);
+        IntStream.range(0, 10_000).forEach(i -> index.put("seen-" + i, (long) i));
+
+        // When
+        var falsePositives = IntStream.range(0, 10_000)
+                                      .filter(i -> index.mightHaveSeen("unseen-" + i))
+                                      .count();
+
+        // Then
+        assert falsePositives < 300;
+    }
+
+    private ClientOrderIdIndex index(int maxRecent, int bloomExpectedInsertions) {
+        return new ClientOrderIdIndex(Duration.ofMinutes(10), maxRecent, bloomExpectedInsertions, 0.01, clock);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2022-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.daniel.orderbook.idempotency;
+
+import ch.qos.logback.classic.Level;
+import org.daniel.orderbook.MockData;
+import org.daniel.orderbook.OrderbookApplication;
+import org.daniel.orderbook.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares plain order submission with idempotent submission, for new and retried client order ids, through the real
+ * service and repository against PostgreSQL, so the numbers include the statements each path sends.
+ * <p>
+ * Starts a PostgreSQL container, unless a database is passed with
+ * {@code -jvmArgsAppend "-Dspring.datasource.url=... -Dspring.datasource.username=... -Dspring.datasource.password=..."}.
+ * Logging is turned down to ERROR, otherwise the duplicate order log line dominates the retried path.
+ * <p>
+ * Run with
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main IdempotentOrderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class IdempotentOrderBenchmark {
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+
+    @State(Scope.Thread)
+    public static class ClientOrderIds {
+
+        // Unique per run as well, the database may be reused between runs
+        private final String prefix = UUID.randomUUID() + "-";
+        private long next;
+
+        String nextId() {
+            return prefix + next++;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // Until Spring takes over, logback runs with its default configuration, which logs everything at DEBUG
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+
+        var properties = new HashMap<String, Object>();
+        properties.put("logging.level.root", "ERROR");
+        if (System.getProperty("spring.datasource.url") == null) {
+            postgres = new PostgreSQLContainer<>("postgres:14");
+            postgres.start();
+            properties.put("spring.datasource.url", postgres.getJdbcUrl());
+            properties.put("spring.datasource.username", postgres.getUsername());
+            properties.put("spring.datasource.password", postgres.getPassword());
+        }
+
+        context = new SpringApplicationBuilder(OrderbookApplication.class).web(WebApplicationType.NONE)
+                                                                          .bannerMode(Banner.Mode.OFF)
+                                                                          .properties(properties)
+                                                                          .run();
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public Long createOrder() {
+        return orderService.createOrder(MockData.defaultOrderRequest("SEK", null));
+    }
+
+    @Benchmark
+    public Long createIdempotentOrder(ClientOrderIds clientOrderIds) {
+        return orderService.createOrder(MockData.defaultOrderRequest("SEK", clientOrderIds.nextId()));
+    }
+
+    @Benchmark
+    public Long createRetriedOrder() {
+        return orderService.createOrder(MockData.defaultOrderRequest("SEK", "retried"));
+    }
+}
@@ -0,0 +1,187 @@
+package org.daniel.orderbook.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class LossyAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BlockingListAppender target = new BlockingListAppender();
+    private LossyAsyncAppender appender;
+
+    @BeforeEach
+    public void setUp() {
+        target.setContext(context);
+        target.start();
+
+        appender = new LossyAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(1);
+        appender.setDiscardingThreshold(0);
+        appender.addAppender(target);
+        appender.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    public void shouldDropAndCountWhenQueueIsFull() throws InterruptedException {
+        // Given
+        fillQueue();
+
+        // When
+        appender.doAppend(event(Level.INFO, "dropped"));
+        appender.doAppend(event(Level.WARN, "dropped"));
+
+        // Then
+        assert appender.getDroppedCount() == 2;
+
+        release.countDown();
+        appender.stop();
+        assert !target.messages().contains("dropped");
+    }
+
+    @Test
+    public void shouldWriteErrorsOnCallingThreadWhenQueueIsFull() throws InterruptedException {
+        // Given
+        fillQueue();
+
+        // When
+        appender.doAppend(event(Level.ERROR, "error"));
+
+        // Then
+        assert appender.getDroppedCount() == 0;
+        assert target.messages().contains("error");
+    }
+
+    @Test
+    public void shouldDropInfoButKeepWarnOnceDefaultThresholdIsReached() throws InterruptedException {
+        // Given
+        var thresholded = new LossyAsyncAppender();
+        thresholded.setContext(context);
+        thresholded.setQueueSize(10);
+        thresholded.addAppender(target);
+        thresholded.start();
+
+        thresholded.doAppend(event(Level.INFO, "block"));
+        assert target.blocked.await(5, TimeUnit.SECONDS);
+        for (var i = 0; i < 9; i++) {
+            thresholded.doAppend(event(Level.INFO, "queued"));
+        }
+
+        // When
+        thresholded.doAppend(event(Level.INFO, "dropped"));
+        thresholded.doAppend(event(Level.WARN, "warn"));
+
+        // Then
+        assert thresholded.getDroppedCount() == 1;
+        assert thresholded.getRemainingCapacity() == 0;
+
+        release.countDown();
+        thresholded.stop();
+        assert target.messages().contains("warn");
+        assert !target.messages().contains("dropped");
+    }
+
+    @Test
+    public void shouldAccountForEveryEventUnderContention() throws InterruptedException {
+        // Given
+        var threads = 8;
+        var eventsPerThread = 5_000;
+        var counting = new CountingAppender();
+        counting.setContext(context);
+        counting.start();
+
+        var contended = new LossyAsyncAppender();
+        contended.setContext(context);
+        contended.setQueueSize(16);
+        contended.setMaxFlushTime(10_000);
+        contended.addAppender(counting);
+        contended.start();
+
+        // When
+        var senders = IntStream.range(0, threads)
+                               .mapToObj(t -> new Thread(() -> IntStream.range(0, eventsPerThread).forEach(i -> {
+                                   var level = i % 10 == 0 ? Level.ERROR : (i % 2 == 0 ? Level.WARN : Level.INFO);
+                                   contended.doAppend(event(level, "event"));
+                               })))
+                               .collect(Collectors.toList());
+        senders.forEach(Thread::start);
+        for (var sender : senders) {
+            sender.join();
+        }
+        contended.stop();
+
+        // Then
+        assert counting.delivered.get() + contended.getDroppedCount() == (long) threads * eventsPerThread;
+        assert counting.deliveredErrors.get() == (long) threads * eventsPerThread / 10;
+    }
+
+    private void fillQueue() throws InterruptedException {
+        // The worker picks up the first event and blocks on it, the second one then occupies the only slot
+        appender.doAppend(event(Level.INFO, "block"));
+        assert target.blocked.await(5, TimeUnit.SECONDS);
+        appender.doAppend(event(Level.INFO, "queued"));
+        assert appender.getRemainingCapacity() == 0;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), level, message, null, null);
+    }
+
+    private static class CountingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong deliveredErrors = new AtomicLong();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            delivered.incrementAndGet();
+            if (event.getLevel() == Level.ERROR) {
+                deliveredErrors.incrementAndGet();
+            }
+        }
+    }
+
+    private class BlockingListAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            events.add(event);
+            if (event.getMessage().equals("block")) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        List<String> messages() {
+            return events.stream().map(ILoggingEvent::getMessage).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.daniel.orderbook.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MarkerFactory;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.addSampleRate("order.create=1.0");
+        filter.addSampleRate("order.fetch=0.0");
+        filter.start();
+    }
+
+    @Test
+    public void shouldDenySampledOutMarker() {
+        // When
+        var reply = decide("order.fetch", Level.INFO, null);
+
+        // Then
+        assert reply == FilterReply.DENY;
+    }
+
+    @Test
+    public void shouldLetThroughFullySampledMarker() {
+        // When
+        var reply = decide("order.create", Level.INFO, null);
+
+        // Then
+        assert reply == FilterReply.NEUTRAL;
+    }
+
+    @Test
+    public void shouldLetThroughUnknownMarker() {
+        // When
+        var reply = decide("order.summary", Level.INFO, null);
+
+        // Then
+        assert reply == FilterReply.NEUTRAL;
+    }
+
+    @Test
+    public void shouldAlwaysLetThroughErrors() {
+        // When
+        var errorReply = decide("order.fetch", Level.ERROR, null);
+        var throwableReply = decide("order.fetch", Level.WARN, new IllegalStateException("Nope!"));
+
+        // Then
+        assert errorReply == FilterReply.NEUTRAL;
+        assert throwableReply == FilterReply.NEUTRAL;
+    }
+
+    @Test
+    public void shouldIgnoreInvalidSampleRate() {
+        // Given
+        filter.addSampleRate("order.summary=2.0");
+        filter.addSampleRate("order.summary=foo");
+
+        // When
+        var reply = decide("order.summary", Level.INFO, null);
+
+        // Then
+        assert reply == FilterReply.NEUTRAL;
+    }
+
+    private FilterReply decide(String marker, Level level, Throwable t) {
+        return filter.decide(MarkerFactory.getMarker(marker), context.getLogger("test"), level, "message", null, t);
+    }
+}
@@ -0,0 +1,88 @@
+package org.daniel.orderbook.repositories;
+
+import org.daniel.orderbook.MockData;
+import org.daniel.orderbook.repositories.model.OrderEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the native insert against PostgreSQL with the schema from the real changelog. Skipped without Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    public void shouldReturnIdOfInsertedOrder() {
+        // When
+        var orderId = orderRepository.insertIfAbsent(order("client-1", 500L));
+
+        // Then
+        assert orderId.isPresent();
+        assert orderRepository.findById(orderId.get()).orElseThrow().getVolume() == 500L;
+    }
+
+    @Test
+    public void shouldReturnEmptyWhenClientOrderIdIsTaken() {
+        // Given
+        var originalId = orderRepository.insertIfAbsent(order("client-1", 500L)).orElseThrow();
+
+        // When
+        var orderId = orderRepository.insertIfAbsent(order("client-1", 999L));
+
+        // Then
+        assert orderId.isEmpty();
+        assert orderRepository.count() == 1;
+        assert orderRepository.findByClientOrderId("client-1").orElseThrow().getId().equals(originalId);
+    }
+
+    @Test
+    public void shouldFailOnConflictOtherThanClientOrderId() {
+        // Given
+        var existingId = orderRepository.insertIfAbsent(order("client-1", 500L)).orElseThrow();
+
+        // Sequence out of sync with the table, the next insert gets an id that is already taken
+        entityManager.createNativeQuery("SELECT setval(pg_get_serial_sequence('orders', 'id'), :id, false)")
+                     .setParameter("id", existingId)
+                     .getSingleResult();
+
+        // When / Then
+        assertThrows(DataIntegrityViolationException.class, () -> orderRepository.insertIfAbsent(order("client-2", 500L)));
+    }
+
+    private static OrderEntity order(String clientOrderId, Long volume) {
+        var order = MockData.defaultOrderEntity(null, volume, BigDecimal.TEN, "SEK");
+        order.setClientOrderId(clientOrderId);
+        return order;
+    }
+}
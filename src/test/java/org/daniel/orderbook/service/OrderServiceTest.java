@@ -1,5 +1,6 @@
 package org.daniel.orderbook.service;
 
+import org.daniel.orderbook.idempotency.ClientOrderIdIndex;
 import org.daniel.orderbook.repositories.OrderRepository;
 import org.daniel.orderbook.repositories.model.OrderEntity;
 import org.daniel.orderbook.rest.model.OrderSide;
@@ -9,9 +10,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +23,10 @@ import java.util.Optional;
 import static org.daniel.orderbook.MockData.defaultOrderEntity;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +35,9 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Spy
+    private ClientOrderIdIndex clientOrderIdIndex = new ClientOrderIdIndex(Duration.ofMinutes(10), 100, 1_000, 0.01, Clock.systemUTC());
+
     @InjectMocks
     private OrderService orderService;
 
@@ -46,6 +57,58 @@ class OrderServiceTest {
         assert id == 1L;
     }
 
+    @Test
+    public void shouldReturnOriginalOrderIdForRetriedClientOrderId() {
+        // Given
+        var request = MockData.defaultOrderRequest("SEK", "client-1");
+
+        when(orderRepository.insertIfAbsent(any())).thenReturn(Optional.of(1L));
+
+        // When
+        var firstId = orderService.createOrder(request);
+        var retriedId = orderService.createOrder(request);
+
+        // Then
+        assert firstId == 1L;
+        assert retriedId == 1L;
+        verify(orderRepository, times(1)).insertIfAbsent(any());
+        verify(orderRepository, never()).findByClientOrderId(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void shouldReturnExistingOrderIdWhenInsertConflicts() {
+        // Given
+        var request = MockData.defaultOrderRequest("SEK", "client-1");
+
+        when(orderRepository.insertIfAbsent(any())).thenReturn(Optional.empty());
+        when(orderRepository.findByClientOrderId("client-1")).thenReturn(Optional.of(defaultOrderEntity()));
+
+        // When
+        var id = orderService.createOrder(request);
+
+        // Then
+        assert id == 1L;
+        assert clientOrderIdIndex.findRecent("client-1").orElseThrow() == 1L;
+    }
+
+    @Test
+    public void shouldReturnExistingOrderIdWithoutInsertWhenIndexMightHaveSeenId() {
+        // Given
+        var request = MockData.defaultOrderRequest("SEK", "client-1");
+
+        doReturn(true).when(clientOrderIdIndex).mightHaveSeen("client-1");
+        when(orderRepository.findByClientOrderId("client-1")).thenReturn(Optional.of(defaultOrderEntity()));
+
+        // When
+        var id = orderService.createOrder(request);
+
+        // Then
+        assert id == 1L;
+        verify(orderRepository, never()).insertIfAbsent(any());
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     public void shouldFetchOrder() {
         // Given
@@ -0,0 +1,130 @@
+package org.daniel.orderbook.startup;
+
+import liquibase.Liquibase;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiquibaseChecksumGuardTest {
+
+    private static final String CHANGELOG = "classpath:/db/changelog/db.changelog-master.xml";
+    private static final String BROKEN_CHANGELOG = "classpath:/db/changelog-broken/db.changelog-master.xml";
+
+    private EmbeddedDatabase database;
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+                                                .generateUniqueName(true)
+                                                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void shouldRunLiquibaseAndStoreChecksumOnFreshDatabase() {
+        // When
+        var liquibase = start(CHANGELOG);
+
+        // Then
+        assert liquibase.ran;
+        assert storedChecksums(CHANGELOG) == 1;
+    }
+
+    @Test
+    public void shouldSkipLiquibaseWhenChecksumMatches() {
+        // Given
+        start(CHANGELOG);
+
+        // When
+        var liquibase = start(CHANGELOG);
+
+        // Then
+        assert !liquibase.ran;
+        assert storedChecksums(CHANGELOG) == 1;
+    }
+
+    @Test
+    public void shouldRunLiquibaseWhenContextsChange() {
+        // Given
+        start(CHANGELOG);
+
+        // When
+        var liquibase = start(CHANGELOG, settings -> settings.setContexts("reporting"));
+
+        // Then
+        assert liquibase.ran;
+    }
+
+    @Test
+    public void shouldRunLiquibaseWhenParametersChange() {
+        // Given
+        start(CHANGELOG, settings -> settings.setChangeLogParameters(Map.of("owner", "orders")));
+
+        // When
+        var liquibase = start(CHANGELOG, settings -> settings.setChangeLogParameters(Map.of("owner", "reporting")));
+
+        // Then
+        assert liquibase.ran;
+    }
+
+    @Test
+    public void shouldNotStoreChecksumWhenUpdateFails() {
+        // When
+        assertThrows(BeanCreationException.class, () -> start(BROKEN_CHANGELOG));
+
+        // Then
+        assert storedChecksums(BROKEN_CHANGELOG) == 0;
+    }
+
+    private RecordingLiquibase start(String changeLog) {
+        return start(changeLog, settings -> {
+        });
+    }
+
+    private RecordingLiquibase start(String changeLog, Consumer<SpringLiquibase> settings) {
+        var liquibase = new RecordingLiquibase();
+        liquibase.setDataSource(database);
+        liquibase.setChangeLog(changeLog);
+        settings.accept(liquibase);
+
+        try (var context = new GenericApplicationContext()) {
+            context.registerBean(LiquibaseChecksumGuard.class);
+            context.registerBean("liquibase", SpringLiquibase.class, () -> liquibase);
+            context.refresh();
+        }
+        return liquibase;
+    }
+
+    private int storedChecksums(String changeLog) {
+        return new JdbcTemplate(database).queryForObject("SELECT COUNT(*) FROM schema_checksum WHERE changelog = ?",
+                                                         Integer.class, changeLog);
+    }
+
+    private static class RecordingLiquibase extends SpringLiquibase {
+
+        boolean ran = false;
+
+        @Override
+        protected void performUpdate(Liquibase liquibase) throws LiquibaseException {
+            ran = true;
+            super.performUpdate(liquibase);
+        }
+    }
+}